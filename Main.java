@@ -8,6 +8,7 @@ import java.io.IOException;
 public class Main {
     public static void main(String[] args) {
         Warehouse warehouse = new Warehouse();
+        warehouse.startReservationExpiry(100);
         Backup backup = new Backup(warehouse.getProducts());
         Scanner in = new Scanner(System.in);
         System.out.println("Warehouse CLI. Type 'help' for commands.");
@@ -24,6 +25,7 @@ public class Main {
                     case "exit":
                     case "quit":
                         System.out.println("Bye.");
+                        warehouse.stopReservationExpiry();
                         in.close();
                         return;
                     case "help":
@@ -61,6 +63,30 @@ public class Main {
                         qty = Integer.parseInt(parts[2]);
                         System.out.println(warehouse.deliverProduct(id, qty) ? "Delivered." : "Insufficient stock or product not found.");
                         break;
+                    case "reserve":
+                        // reserve <id> <qty> <ttlSeconds>
+                        if (parts.length < 4) { System.out.println("Usage: reserve <id> <qty> <ttlSeconds>"); break; }
+                        id = parts[1];
+                        qty = Integer.parseInt(parts[2]);
+                        long ttl = Math.multiplyExact(Long.parseLong(parts[3]), 1000L);
+                        warehouse.reserveProduct(id, qty, ttl).ifPresentOrElse(
+                            hold -> System.out.println("Reserved. Hold id: " + hold),
+                            () -> System.out.println("Insufficient available stock or product not found.")
+                        );
+                        break;
+                    case "confirm":
+                        // confirm <holdId>
+                        if (parts.length < 2) { System.out.println("Usage: confirm <holdId>"); break; }
+                        System.out.println(warehouse.confirmReservation(Long.parseLong(parts[1])) ? "Confirmed." : "Hold not found or expired.");
+                        break;
+                    case "release":
+                        // release <holdId>
+                        if (parts.length < 2) { System.out.println("Usage: release <holdId>"); break; }
+                        System.out.println(warehouse.releaseReservation(Long.parseLong(parts[1])) ? "Released." : "Hold not found or expired.");
+                        break;
+                    case "expire":
+                        System.out.println("Expired holds: " + warehouse.expireReservations());
+                        break;
                     case "pay":
                         // pay <id> <amount>
                         if (parts.length < 3) { System.out.println("Usage: pay <id> <amount>"); break; }
@@ -147,6 +173,10 @@ public class Main {
         System.out.println("  remove <id>");
         System.out.println("  receive <id> <qty> <date|today> <shipper> <cost>");
         System.out.println("  deliver <id> <qty>");
+        System.out.println("  reserve <id> <qty> <ttlSeconds>");
+        System.out.println("  confirm <holdId>");
+        System.out.println("  release <holdId>");
+        System.out.println("  expire");
         System.out.println("  pay <id> <amount>");
         System.out.println("  list");
         System.out.println("  low");
@@ -7,6 +7,8 @@ public class Product {
 	// Product model and related operations
 	private final String id;
 	private int stock;
+	private int held; // units reserved but not yet confirmed or released
+	int holdHead = -1; // first of this product's hold slots; maintained by Reservations under the Products monitor
     private String name;
 	private int threshold;
 	private BigDecimal paymentDue = BigDecimal.ZERO;
@@ -31,16 +33,39 @@ public class Product {
 	}
 
 	// Decrease stock when delivering to customers/other warehouses
-	// Returns true if delivery succeeded, false if insufficient stock (no change)
+	// Returns true if delivery succeeded, false if insufficient available stock (no change)
 	public synchronized boolean addDelivery(int quantity) {
 		if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
-		if (quantity > stock) return false;
+		if (quantity > stock - held) return false;
 		stock -= quantity;
 		return true;
 	}
 
+	// Hold units for a cart/order. Returns false if not enough available stock (no change)
+	public synchronized boolean reserve(int quantity) {
+		if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
+		if (quantity > stock - held) return false;
+		held += quantity;
+		return true;
+	}
+
+	// Turn held units into a delivery
+	public synchronized void confirmReservation(int quantity) {
+		if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
+		if (quantity > held) throw new IllegalStateException("cannot confirm more than held");
+		held -= quantity;
+		stock -= quantity;
+	}
+
+	// Return held units to available stock
+	public synchronized void releaseReservation(int quantity) {
+		if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
+		if (quantity > held) throw new IllegalStateException("cannot release more than held");
+		held -= quantity;
+	}
+
 	public synchronized boolean isBelowThreshold() {
-		return stock < threshold;
+		return stock - held < threshold;
 	}
 
 	public synchronized BigDecimal getPaymentDue() {
@@ -59,6 +84,8 @@ public class Product {
 	// Simple accessors
 	public String getId() { return id; }
 	public synchronized int getStock() { return stock; }
+	public synchronized int getHeld() { return held; }
+	public synchronized int getAvailable() { return stock - held; }
 	public synchronized int getThreshold() { return threshold; }
 	public synchronized void setThreshold(int threshold) { this.threshold = Math.max(0, threshold); }
 
@@ -74,6 +101,7 @@ public class Product {
 		return "Product{id='" + id + '\'' +
 			", name='" + name + '\'' +
 			", stock=" + stock +
+			", held=" + held +
 			", threshold=" + threshold +
 			", paymentDue=" + paymentDue.setScale(2, RoundingMode.HALF_UP) +
 			", shipments=" + shipmentDates.size() +
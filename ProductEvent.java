@@ -0,0 +1,63 @@
+import java.math.BigDecimal;
+
+public class ProductEvent {
+	// Compact change event published for every Products mutation.
+	// Instances are preallocated ring slots (or per-subscriber copies) and are reused:
+	// handlers must copy any field they want to keep after the callback returns.
+
+	public enum Type { REGISTERED, REMOVED, SHIPMENT, DELIVERY, PAYMENT, THRESHOLD_CROSSED,
+		RESERVED, CONFIRMED, RELEASED, EXPIRED }
+
+	long sequence;
+	Type type;
+	String productId;
+	int quantity;       // units shipped/delivered/held, 0 otherwise
+	int stock;          // stock after the mutation
+	int held;           // reserved units after the mutation
+	int threshold;      // threshold after the mutation
+	BigDecimal amount;  // shipment cost or payment amount, null otherwise
+	boolean below;      // true when the product is below its threshold after the mutation
+
+	void set(long sequence, Type type, String productId, int quantity, int stock, int held, int threshold,
+			BigDecimal amount, boolean below) {
+		this.sequence = sequence;
+		this.type = type;
+		this.productId = productId;
+		this.quantity = quantity;
+		this.stock = stock;
+		this.held = held;
+		this.threshold = threshold;
+		this.amount = amount;
+		this.below = below;
+	}
+
+	void copyFrom(ProductEvent other) {
+		set(other.sequence, other.type, other.productId, other.quantity, other.stock, other.held, other.threshold,
+			other.amount, other.below);
+	}
+
+	// Simple accessors
+	public long getSequence() { return sequence; }
+	public Type getType() { return type; }
+	public String getProductId() { return productId; }
+	public int getQuantity() { return quantity; }
+	public int getStock() { return stock; }
+	public int getHeld() { return held; }
+	public int getThreshold() { return threshold; }
+	public BigDecimal getAmount() { return amount; }
+	public boolean isBelow() { return below; }
+
+	@Override
+	public String toString() {
+		return "ProductEvent{seq=" + sequence +
+			", type=" + type +
+			", id='" + productId + '\'' +
+			", quantity=" + quantity +
+			", stock=" + stock +
+			", held=" + held +
+			", threshold=" + threshold +
+			", amount=" + (amount != null ? amount.toPlainString() : "-") +
+			", below=" + below +
+			'}';
+	}
+}
@@ -0,0 +1,92 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ProductEventBenchmark {
+	// Measures events/sec through Products with fast and slow subscribers attached, for each overflow policy.
+	// Usage: java ProductEventBenchmark [seconds] [capacity] [fastSubscribers] [slowSubscribers]
+	// Handlers only touch the event: calling back into Products from a handler stalls the writer under BLOCK.
+	// On machines with fewer cores than threads, DROP_OLDEST "lost" mostly reflects consumers not being scheduled.
+
+	private static final int PRODUCTS = 64;
+	private static final int FAST_BATCH = 256;
+	private static final int SLOW_BATCH = 16;
+	private static final long SLOW_WORK_NANOS = 2_000L; // per event, simulates a slow downstream write
+
+	public static void main(String[] args) throws InterruptedException {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+		int fast = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+		int slow = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+		System.out.printf("capacity=%d fast=%d slow=%d duration=%ds%n", capacity, fast, slow, seconds);
+		for (ProductEventRing.OverflowPolicy policy : ProductEventRing.OverflowPolicy.values()) {
+			run(policy, capacity, fast, slow, seconds);
+		}
+	}
+
+	private static void run(ProductEventRing.OverflowPolicy policy, int capacity, int fast, int slow, int seconds)
+		throws InterruptedException {
+		ProductEventRing ring = new ProductEventRing(capacity, policy);
+		Products products = new Products(ring);
+		String[] ids = new String[PRODUCTS];
+		for (int i = 0; i < PRODUCTS; i++) {
+			ids[i] = "P" + i;
+			products.registerProduct(ids[i], Integer.MAX_VALUE, 0, null);
+		}
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<Thread> consumers = new ArrayList<>();
+		long[] consumed = new long[fast + slow];
+		ProductEventRing.Subscriber[] subs = new ProductEventRing.Subscriber[fast + slow];
+		for (int i = 0; i < fast + slow; i++) {
+			final int idx = i;
+			final boolean isSlow = i >= fast;
+			final ProductEventRing.Subscriber sub = ring.subscribe();
+			subs[i] = sub;
+			final long[] sink = new long[1];
+			ProductEventRing.Handler handler = isSlow
+				? e -> { sink[0] += e.getStock(); spin(SLOW_WORK_NANOS); }
+				: e -> sink[0] += e.getStock();
+			Thread t = new Thread(() -> {
+				int batch = isSlow ? SLOW_BATCH : FAST_BATCH;
+				long n = 0;
+				while (running.get()) {
+					int got = sub.poll(handler, batch);
+					if (got == 0) Thread.onSpinWait();
+					n += got;
+				}
+				consumed[idx] = n;
+			}, (isSlow ? "slow-" : "fast-") + i);
+			t.setDaemon(true);
+			consumers.add(t);
+			t.start();
+		}
+
+		// Producer: deliveries through the normal Products path (no allocation on the event path)
+		long published0 = ring.getPublished();
+		long start = System.nanoTime();
+		long deadline = start + seconds * 1_000_000_000L;
+		long ops = 0;
+		while ((ops & 1023) != 0 || System.nanoTime() < deadline) {
+			products.deliver(ids[(int) (ops & (PRODUCTS - 1))], 1);
+			ops++;
+		}
+		long elapsed = System.nanoTime() - start;
+		running.set(false);
+		for (Thread t : consumers) t.join();
+
+		double secs = elapsed / 1e9;
+		long published = ring.getPublished() - published0;
+		System.out.printf("%-11s ops/s=%,.0f published/s=%,.0f dropped=%,d%n",
+			policy, ops / secs, published / secs, ring.getDropped());
+		for (int i = 0; i < subs.length; i++) {
+			System.out.printf("    %-4s #%d consumed/s=%,.0f lost=%,d lag=%,d%n",
+				i < fast ? "fast" : "slow", i, consumed[i] / secs, subs[i].getLost(), subs[i].lag());
+		}
+	}
+
+	private static void spin(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while (System.nanoTime() < end) Thread.onSpinWait();
+	}
+}
@@ -0,0 +1,189 @@
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+public class ProductEventRing {
+	// Preallocated single-writer / multi-reader ring buffer of ProductEvent slots.
+	// The writer is Products (its monitor serialises all publishers); each Subscriber keeps its
+	// own cursor and is drained in batches by exactly one consumer thread.
+	// Handlers run on the consumer thread and must not call back into Products/Warehouse: under BLOCK
+	// the writer waits while holding the Products monitor, so such a call can only time out.
+
+	// What the writer does when the slowest subscriber is a full ring behind
+	public enum OverflowPolicy {
+		BLOCK,       // wait up to blockTimeoutNanos for the slowest subscriber (stalls all Products calls), then drop
+		             // without waiting again until that subscriber's cursor moves
+		DROP_NEWEST, // discard the new event and count it in getDropped()
+		DROP_OLDEST  // overwrite unread slots; lagging subscribers skip ahead and count getLost()
+	}
+
+	public interface Handler {
+		// The event instance is reused; copy anything needed after the call returns.
+		// Must not call into Products/Warehouse (see class comment).
+		void onEvent(ProductEvent event);
+	}
+
+	private final ProductEvent[] slots;
+	private final int mask;
+	private final OverflowPolicy policy;
+	private final long blockTimeoutNanos;
+
+	private volatile long claimed;    // writer: sequence + 1 of the slot being written (DROP_OLDEST overrun check)
+	private volatile long published;  // writer: number of events visible to subscribers
+	private volatile long dropped;    // writer: events discarded under DROP_NEWEST or after a BLOCK timeout
+	private long next;                // writer-only copy of published
+	private long gatingCache;         // writer-only: slowest subscriber cursor last observed
+	private long stalledCursor = -1;  // writer-only: slowest cursor when BLOCK last timed out, -1 if none
+	private volatile Subscriber[] subscribers = new Subscriber[0];
+	private Object owner;             // the single writer, set once by attachWriter
+
+	public ProductEventRing(int capacity, OverflowPolicy policy) {
+		this(capacity, policy, 100_000_000L);
+	}
+
+	// blockTimeoutNanos bounds how long BLOCK waits for a stalled subscriber; after a timeout later
+	// publishes drop immediately until the slowest cursor moves (or the subscriber is unsubscribed)
+	public ProductEventRing(int capacity, OverflowPolicy policy, long blockTimeoutNanos) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a positive power of two");
+		if (policy == null) throw new IllegalArgumentException("policy cannot be null");
+		if (blockTimeoutNanos < 0) throw new IllegalArgumentException("blockTimeoutNanos cannot be negative");
+		this.slots = new ProductEvent[capacity];
+		for (int i = 0; i < capacity; i++) slots[i] = new ProductEvent();
+		this.mask = capacity - 1;
+		this.policy = policy;
+		this.blockTimeoutNanos = blockTimeoutNanos;
+	}
+
+	// Bind the ring to its single writer; a ring cannot be shared by two Products
+	synchronized void attachWriter(Object writer) {
+		if (writer == null) throw new IllegalArgumentException("writer cannot be null");
+		if (owner != null && owner != writer) throw new IllegalArgumentException("event ring already has a writer");
+		owner = writer;
+	}
+
+	// Writer side: must only be called by one thread at a time. Does not allocate.
+	// Returns false if the event was dropped (DROP_NEWEST, or BLOCK timed out).
+	boolean publish(ProductEvent.Type type, String productId, int quantity, int stock, int held, int threshold,
+			BigDecimal amount, boolean below) {
+		long seq = next;
+		if (policy != OverflowPolicy.DROP_OLDEST) {
+			long wrapPoint = seq - slots.length;
+			if (wrapPoint >= gatingCache) {
+				long min = minCursor(seq);
+				long deadline = policy == OverflowPolicy.BLOCK ? System.nanoTime() + blockTimeoutNanos : 0;
+				while (wrapPoint >= min) {
+					if (policy == OverflowPolicy.DROP_NEWEST || min == stalledCursor || System.nanoTime() - deadline >= 0) {
+						if (policy == OverflowPolicy.BLOCK) stalledCursor = min;
+						dropped = dropped + 1;
+						return false;
+					}
+					LockSupport.parkNanos(1_000L);
+					min = minCursor(seq);
+				}
+				gatingCache = min;
+				stalledCursor = -1;
+			}
+		}
+		// Announce the slot before touching it so overwriting can be detected by readers
+		claimed = seq + 1;
+		VarHandle.storeStoreFence();
+		slots[(int) seq & mask].set(seq, type, productId, quantity, stock, held, threshold, amount, below);
+		next = seq + 1;
+		published = seq + 1;
+		return true;
+	}
+
+	private long minCursor(long fallback) {
+		long min = fallback;
+		for (Subscriber s : subscribers) min = Math.min(min, s.cursor);
+		return min;
+	}
+
+	// Attach a subscriber that starts with the next published event
+	public synchronized Subscriber subscribe() {
+		Subscriber s = new Subscriber(published);
+		Subscriber[] cur = subscribers;
+		Subscriber[] upd = Arrays.copyOf(cur, cur.length + 1);
+		upd[cur.length] = s;
+		subscribers = upd;
+		return s;
+	}
+
+	// Detach a subscriber so it no longer holds back the writer. Returns true if it was attached.
+	public synchronized boolean unsubscribe(Subscriber s) {
+		Subscriber[] cur = subscribers;
+		for (int i = 0; i < cur.length; i++) {
+			if (cur[i] != s) continue;
+			Subscriber[] upd = new Subscriber[cur.length - 1];
+			System.arraycopy(cur, 0, upd, 0, i);
+			System.arraycopy(cur, i + 1, upd, i, cur.length - i - 1);
+			subscribers = upd;
+			return true;
+		}
+		return false;
+	}
+
+	// Simple accessors
+	public int getCapacity() { return slots.length; }
+	public OverflowPolicy getPolicy() { return policy; }
+	public long getBlockTimeoutNanos() { return blockTimeoutNanos; }
+	public long getPublished() { return published; }
+	public long getDropped() { return dropped; }
+	public int getSubscriberCount() { return subscribers.length; }
+
+	public class Subscriber {
+		private volatile long cursor; // next sequence to read
+		private volatile long lost;   // events overwritten before they could be read (DROP_OLDEST)
+		private final ProductEvent scratch = new ProductEvent();
+
+		private Subscriber(long start) {
+			this.cursor = start;
+		}
+
+		// Deliver up to maxBatch pending events to handler; returns the number delivered.
+		// Must only be called by one thread at a time per subscriber. Does not allocate.
+		public int poll(Handler handler, int maxBatch) {
+			if (handler == null) throw new IllegalArgumentException("handler cannot be null");
+			if (maxBatch <= 0) throw new IllegalArgumentException("maxBatch must be positive");
+			long seq = cursor;
+			long available = published;
+			if (seq >= available) return 0;
+			if (policy == OverflowPolicy.DROP_OLDEST && available - seq > slots.length) {
+				lost += available - slots.length - seq;
+				seq = available - slots.length;
+			}
+			long end = Math.min(available, seq + maxBatch);
+			int delivered = 0;
+			try {
+				while (seq < end) {
+					ProductEvent slot = slots[(int) seq & mask];
+					if (policy != OverflowPolicy.DROP_OLDEST) {
+						// The writer cannot reuse this slot until our cursor moves past it
+						handler.onEvent(slot);
+					} else {
+						scratch.copyFrom(slot);
+						VarHandle.loadLoadFence();
+						long oldestIntact = claimed - slots.length;
+						if (seq < oldestIntact) {
+							// Overwritten while copying: skip to the oldest slot still intact
+							lost += oldestIntact - seq;
+							seq = oldestIntact;
+							break;
+						}
+						handler.onEvent(scratch);
+					}
+					seq++;
+					delivered++;
+				}
+			} finally {
+				cursor = seq; // one volatile store per batch
+			}
+			return delivered;
+		}
+
+		// Events published but not yet read by this subscriber
+		public long lag() { return Math.max(0, published - cursor); }
+		public long getLost() { return lost; }
+	}
+}
@@ -0,0 +1,164 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ProductEventRingCheck {
+	// Runnable self-check of ProductEventRing overflow behaviour; exits non-zero on the first failure.
+	// Usage: java ProductEventRingCheck [concurrentEvents]
+
+	public static void main(String[] args) throws InterruptedException {
+		long events = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000L;
+		dropOldestSkipsAhead();
+		dropNewestCountsDrops();
+		blockNeverOverwrites(events);
+		blockTimesOutOnAbandonedSubscriber();
+		blockStaysDroppingUntilCursorMoves();
+		ringHasSingleWriter();
+		dropOldestConcurrentReadsAreIntact(events);
+		System.out.println("All ProductEventRing checks passed.");
+	}
+
+	// A subscriber more than a ring behind resumes at the oldest intact event and counts the rest as lost
+	private static void dropOldestSkipsAhead() {
+		ProductEventRing ring = new ProductEventRing(8, ProductEventRing.OverflowPolicy.DROP_OLDEST);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		for (int i = 0; i < 20; i++) check(publish(ring, i), "DROP_OLDEST never drops");
+		List<Long> seen = new ArrayList<>();
+		int got = sub.poll(e -> seen.add(e.getSequence()), 100);
+		check(got == 8, "DROP_OLDEST delivers one ring of events, got " + got);
+		check(sub.getLost() == 12, "DROP_OLDEST lost should be 12, was " + sub.getLost());
+		for (int i = 0; i < 8; i++) check(seen.get(i) == 12 + i, "DROP_OLDEST expected seq " + (12 + i) + ", got " + seen.get(i));
+		check(sub.lag() == 0 && sub.poll(e -> { }, 100) == 0, "DROP_OLDEST subscriber caught up");
+		check(ring.getDropped() == 0, "DROP_OLDEST dropped should be 0");
+		System.out.println("ok  DROP_OLDEST skip-ahead and lost count");
+	}
+
+	// A full ring rejects new events and counts them; draining makes room again
+	private static void dropNewestCountsDrops() {
+		ProductEventRing ring = new ProductEventRing(8, ProductEventRing.OverflowPolicy.DROP_NEWEST);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		int accepted = 0;
+		for (int i = 0; i < 20; i++) if (publish(ring, i)) accepted++;
+		check(accepted == 8, "DROP_NEWEST accepts one ring, accepted " + accepted);
+		check(ring.getDropped() == 12, "DROP_NEWEST dropped should be 12, was " + ring.getDropped());
+		long[] expect = {0};
+		int got = sub.poll(e -> {
+			check(e.getSequence() == expect[0] && e.getQuantity() == (int) expect[0], "DROP_NEWEST kept the oldest events in order");
+			expect[0]++;
+		}, 100);
+		check(got == 8 && sub.getLost() == 0, "DROP_NEWEST delivers all accepted events");
+		check(publish(ring, 20), "DROP_NEWEST accepts again after draining");
+		System.out.println("ok  DROP_NEWEST drop count");
+	}
+
+	// With a slow subscriber every event arrives exactly once, in order, with the payload it was published with
+	private static void blockNeverOverwrites(long events) throws InterruptedException {
+		ProductEventRing ring = new ProductEventRing(16, ProductEventRing.OverflowPolicy.BLOCK, Long.MAX_VALUE / 2);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		long[] expect = {0};
+		String[] failure = new String[1];
+		Thread consumer = new Thread(() -> {
+			while (expect[0] < events) {
+				int got = sub.poll(e -> {
+					if (e.getSequence() != expect[0] || e.getQuantity() != (int) expect[0] || e.getStock() != ~(int) expect[0]) {
+						failure[0] = "BLOCK expected seq " + expect[0] + ", got " + e;
+					}
+					expect[0]++;
+				}, 7);
+				if (got == 0) Thread.onSpinWait();
+			}
+		}, "block-check");
+		consumer.start();
+		for (long i = 0; i < events; i++) check(publish(ring, i), "BLOCK must not drop with a live subscriber");
+		consumer.join();
+		check(failure[0] == null, failure[0]);
+		check(expect[0] == events && ring.getDropped() == 0 && sub.getLost() == 0, "BLOCK delivered every event");
+		System.out.println("ok  BLOCK never overwrites unread slots (" + events + " events)");
+	}
+
+	// An abandoned subscriber makes BLOCK fall back to dropping after the timeout instead of hanging
+	private static void blockTimesOutOnAbandonedSubscriber() {
+		ProductEventRing ring = new ProductEventRing(4, ProductEventRing.OverflowPolicy.BLOCK, 5_000_000L);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		for (int i = 0; i < 4; i++) check(publish(ring, i), "BLOCK accepts one ring");
+		check(!publish(ring, 4), "BLOCK drops after its timeout");
+		check(ring.getDropped() == 1, "BLOCK timeout counted as dropped");
+		check(ring.unsubscribe(sub) && publish(ring, 5), "BLOCK publishes again once the subscriber is gone");
+		System.out.println("ok  BLOCK bounded wait");
+	}
+
+	// After one timeout a stalled subscriber must not cost every later publish another full wait
+	private static void blockStaysDroppingUntilCursorMoves() {
+		long timeout = 200_000_000L;
+		ProductEventRing ring = new ProductEventRing(4, ProductEventRing.OverflowPolicy.BLOCK, timeout);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		for (int i = 0; i < 4; i++) check(publish(ring, i), "BLOCK accepts one ring");
+		long start = System.nanoTime();
+		check(!publish(ring, 4), "BLOCK drops after its timeout");
+		check(System.nanoTime() - start >= timeout, "first BLOCK overflow waits for the timeout");
+		start = System.nanoTime();
+		for (int i = 5; i < 105; i++) check(!publish(ring, i), "BLOCK keeps dropping while the subscriber is stalled");
+		long elapsed = System.nanoTime() - start;
+		check(elapsed < timeout / 2, "later publishes return at once, 100 took " + elapsed / 1_000_000 + "ms");
+		check(ring.getDropped() == 101, "BLOCK stalled drops counted, was " + ring.getDropped());
+		check(sub.poll(e -> { }, 1) == 1, "stalled subscriber reads one event");
+		check(publish(ring, 105), "BLOCK accepts again once the slowest cursor moved");
+		System.out.println("ok  BLOCK stays in drop mode until the slowest cursor moves");
+	}
+
+	// Two Products sharing a ring would be two writers
+	private static void ringHasSingleWriter() {
+		ProductEventRing ring = new ProductEventRing(8, ProductEventRing.OverflowPolicy.DROP_OLDEST);
+		new Products(ring);
+		boolean rejected = false;
+		try { new Products(ring); }
+		catch (IllegalArgumentException e) { rejected = true; }
+		check(rejected, "a second Products must not share the ring");
+		System.out.println("ok  ring rejects a second writer");
+	}
+
+	// Concurrent overwriting: every delivered event is internally consistent and delivered + lost == published
+	private static void dropOldestConcurrentReadsAreIntact(long events) throws InterruptedException {
+		ProductEventRing ring = new ProductEventRing(64, ProductEventRing.OverflowPolicy.DROP_OLDEST);
+		ProductEventRing.Subscriber sub = ring.subscribe();
+		AtomicBoolean done = new AtomicBoolean();
+		long[] delivered = {0};
+		long[] last = {-1};
+		String[] failure = new String[1];
+		ProductEventRing.Handler handler = e -> {
+			long seq = e.getSequence();
+			if (seq <= last[0] || e.getQuantity() != (int) seq || e.getStock() != ~(int) seq) {
+				failure[0] = "DROP_OLDEST torn or out-of-order read after seq " + last[0] + ": " + e;
+			}
+			last[0] = seq;
+			delivered[0]++;
+		};
+		Thread consumer = new Thread(() -> {
+			while (failure[0] == null) {
+				boolean finished = done.get();
+				int got = sub.poll(handler, 32);
+				if (got == 0 && finished && sub.lag() == 0) break;
+				if (got == 0) Thread.onSpinWait();
+			}
+		}, "drop-oldest-check");
+		consumer.start();
+		for (long i = 0; i < events; i++) publish(ring, i);
+		done.set(true);
+		consumer.join();
+		check(failure[0] == null, failure[0]);
+		check(delivered[0] + sub.getLost() == ring.getPublished(),
+			"DROP_OLDEST delivered " + delivered[0] + " + lost " + sub.getLost() + " != published " + ring.getPublished());
+		System.out.printf("ok  DROP_OLDEST concurrent reads intact (delivered=%d lost=%d)%n", delivered[0], sub.getLost());
+	}
+
+	// Payload fields are derived from the index so readers can detect torn or misplaced slots
+	private static boolean publish(ProductEventRing ring, long i) {
+		return ring.publish(ProductEvent.Type.DELIVERY, "P", (int) i, ~(int) i, 0, 0, null, false);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			System.out.println("FAIL " + message);
+			throw new AssertionError(message);
+		}
+	}
+}
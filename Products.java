@@ -1,6 +1,7 @@
 import java.time.LocalDate;
 import java.util.*;
 import java.math.BigDecimal;
+import java.util.function.LongSupplier;
 
 public class Products {
 	// Product model moved to Product.java
@@ -8,45 +9,146 @@ public class Products {
 	// Simple inventory manager
 	private final Map<String, Product> inventory = new HashMap<>();
 
+	// Change events for downstream consumers; published while holding this monitor (single writer)
+	private final ProductEventRing events;
+
+	// Outstanding holds: 100ms ticks, one wheel revolution ~109 minutes
+	private final Reservations reservations = new Reservations(100, 1 << 16);
+	private final Reservations.ExpiryHandler onHoldExpired = this::holdExpired;
+	private static final long MAX_TTL_MILLIS = 365L * 24 * 60 * 60 * 1000; // keeps now + ttl far from overflow
+
+	// The only time source for hold deadlines: monotonic milliseconds, immune to wall-clock steps
+	private final LongSupplier clock;
+
+	public Products() {
+		this(new ProductEventRing(1024, ProductEventRing.OverflowPolicy.DROP_OLDEST));
+	}
+
+	// The ring becomes this manager's alone: passing a ring already used by another Products is rejected
+	public Products(ProductEventRing events) {
+		this(events, () -> System.nanoTime() / 1_000_000L);
+	}
+
+	// clock must be monotonic; used by checks and benchmarks to drive expiry deterministically
+	Products(ProductEventRing events, LongSupplier clock) {
+		if (events == null) throw new IllegalArgumentException("events cannot be null");
+		if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+		events.attachWriter(this);
+		this.events = events;
+		this.clock = clock;
+	}
+
 	// Register a product (will replace existing with same id)
 	public synchronized Product registerProduct(String id, int initialStock, int threshold, String name) {
 		Product p = new Product(id, initialStock, threshold, name);
-		inventory.put(id, p);
+		Product replaced = inventory.put(id, p);
+		if (replaced != null) purgeHolds(replaced);
+		publish(ProductEvent.Type.REGISTERED, p, 0, null);
 		return p;
 	}
 
 	public synchronized Optional<Product> findProduct(String id) {
+		expireDue();
 		return Optional.ofNullable(inventory.get(id));
 	}
 
 	// Convenience methods: operate by product id
 	public synchronized boolean receiveShipment(String id, int qty, LocalDate date, String shipper, BigDecimal cost) {
+		expireDue();
 		Product p = inventory.get(id);
 		if (p == null) return false;
+		boolean wasBelow = p.isBelowThreshold();
 		p.addShipment(qty, date, shipper, cost);
+		publish(ProductEvent.Type.SHIPMENT, p, qty, cost);
+		publishIfCrossed(p, wasBelow);
 		return true;
 	}
 
 	public synchronized boolean deliver(String id, int qty) {
+		expireDue();
 		Product p = inventory.get(id);
 		if (p == null) return false;
-		return p.addDelivery(qty);
+		boolean wasBelow = p.isBelowThreshold();
+		if (!p.addDelivery(qty)) return false;
+		publish(ProductEvent.Type.DELIVERY, p, qty, null);
+		publishIfCrossed(p, wasBelow);
+		return true;
 	}
 
 	// New utility methods
 
 	// Return a snapshot list of all registered products
 	public synchronized List<Product> listAllProducts() {
+		expireDue();
 		return new ArrayList<>(inventory.values());
 	}
 
 	// Remove a product by id, return true if removed
 	public synchronized boolean removeProduct(String id) {
-		return inventory.remove(id) != null;
+		Product p = inventory.remove(id);
+		if (p == null) return false;
+		purgeHolds(p);
+		publish(ProductEvent.Type.REMOVED, p, 0, null);
+		return true;
+	}
+
+	// Hold qty units of a product for ttlMillis. Returns the hold id, empty if not found or not enough available stock.
+	public synchronized OptionalLong reserve(String id, int qty, long ttlMillis) {
+		if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be positive");
+		if (ttlMillis > MAX_TTL_MILLIS) throw new IllegalArgumentException("ttlMillis cannot exceed one year");
+		long now = expireDue();
+		Product p = inventory.get(id);
+		if (p == null) return OptionalLong.empty();
+		boolean wasBelow = p.isBelowThreshold();
+		if (!p.reserve(qty)) return OptionalLong.empty();
+		long holdId = reservations.add(p, qty, now, now + ttlMillis);
+		publish(ProductEvent.Type.RESERVED, p, qty, null);
+		publishIfCrossed(p, wasBelow);
+		return OptionalLong.of(holdId);
 	}
 
-	// Return products currently below their threshold
+	// Deliver the held units. Returns false if the hold is unknown, expired, or was purged with its product.
+	public synchronized boolean confirmReservation(long holdId) {
+		expireDue();
+		int slot = reservations.find(holdId);
+		if (slot < 0) return false;
+		Product p = reservations.productAt(slot);
+		int qty = reservations.quantityAt(slot);
+		reservations.removeAt(slot);
+		p.confirmReservation(qty);
+		publish(ProductEvent.Type.CONFIRMED, p, qty, null);
+		return true;
+	}
+
+	// Give the held units back. Returns false if the hold is unknown, expired, or was purged with its product.
+	public synchronized boolean releaseReservation(long holdId) {
+		expireDue();
+		int slot = reservations.find(holdId);
+		if (slot < 0) return false;
+		Product p = reservations.productAt(slot);
+		int qty = reservations.quantityAt(slot);
+		reservations.removeAt(slot);
+		boolean wasBelow = p.isBelowThreshold();
+		p.releaseReservation(qty);
+		publish(ProductEvent.Type.RELEASED, p, qty, null);
+		publishIfCrossed(p, wasBelow);
+		return true;
+	}
+
+	// Release every hold whose ttl has passed. Returns the number expired.
+	// Other calls only expire holds lazily; Warehouse.startReservationExpiry drives this periodically.
+	public synchronized int expireReservations() {
+		return reservations.expire(clock.getAsLong(), onHoldExpired);
+	}
+
+	// Number of holds not yet confirmed, released or expired
+	public synchronized int outstandingReservations() {
+		return reservations.size();
+	}
+
+	// Return products currently below their threshold (held units do not count as stock)
 	public synchronized List<Product> getLowStockProducts() {
+		expireDue();
 		List<Product> low = new ArrayList<>();
 		for (Product p : inventory.values()) {
 			if (p.isBelowThreshold()) low.add(p);
@@ -58,7 +160,9 @@ public class Products {
 	public synchronized Optional<BigDecimal> payForProduct(String id, BigDecimal amount) {
 		Product p = inventory.get(id);
 		if (p == null) return Optional.empty();
-		return Optional.ofNullable(p.pay(amount));
+		BigDecimal remaining = p.pay(amount);
+		publish(ProductEvent.Type.PAYMENT, p, 0, amount);
+		return Optional.ofNullable(remaining);
 	}
 
 	// Get number of registered products
@@ -66,4 +170,37 @@ public class Products {
 		return inventory.size();
 	}
 
+	// Change-data-capture stream of all mutations made through this manager
+	public ProductEventRing getEvents() {
+		return events;
+	}
+
+	private void publish(ProductEvent.Type type, Product p, int qty, BigDecimal amount) {
+		events.publish(type, p.getId(), qty, p.getStock(), p.getHeld(), p.getThreshold(), amount, p.isBelowThreshold());
+	}
+
+	// Release holds that are due before availability is read or changed; returns the time used
+	private long expireDue() {
+		long now = clock.getAsLong();
+		reservations.expire(now, onHoldExpired);
+		return now;
+	}
+
+	// Drop the holds of a product leaving the inventory so they neither linger in the wheel nor count as outstanding
+	private void purgeHolds(Product p) {
+		int qty = reservations.removeAll(p);
+		if (qty > 0) p.releaseReservation(qty);
+	}
+
+	private void holdExpired(Product p, int qty) {
+		boolean wasBelow = p.isBelowThreshold();
+		p.releaseReservation(qty);
+		publish(ProductEvent.Type.EXPIRED, p, qty, null);
+		publishIfCrossed(p, wasBelow);
+	}
+
+	private void publishIfCrossed(Product p, boolean wasBelow) {
+		if (p.isBelowThreshold() != wasBelow) publish(ProductEvent.Type.THRESHOLD_CROSSED, p, 0, null);
+	}
+
 }
\ No newline at end of file
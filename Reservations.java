@@ -0,0 +1,178 @@
+import java.util.*;
+
+public class Reservations {
+	// Outstanding stock holds, expired by a hashed timing wheel.
+	// Holds live in parallel arrays (no object per hold) and are linked into the wheel bucket of
+	// their deadline tick, so add/remove are O(1) and each tick only visits its own bucket.
+	// Each hold is also on its product's list (head kept in Product.holdHead) so removeAll can purge
+	// a product's holds without waiting for their ttl.
+	// Not thread-safe: Products calls it while holding its monitor.
+
+	public interface ExpiryHandler {
+		void onExpired(Product product, int quantity);
+	}
+
+	private static final int NIL = -1;
+
+	private final long tickMillis;
+	private final int[] buckets;     // head slot of each wheel bucket
+	private final int wheelMask;
+	private long currentTick = Long.MIN_VALUE; // last tick processed; set on first use
+
+	// Per-slot hold state
+	private Product[] products;
+	private int[] quantities;
+	private long[] deadlines;        // deadline tick
+	private int[] next;              // bucket list, or free list for unused slots
+	private int[] prev;
+	private int[] productNext;       // per-product hold list
+	private int[] productPrev;
+	private int[] generations;       // bumped on reuse so stale hold ids are rejected
+	private int freeHead = NIL;
+	private int used;                // slots ever handed out
+	private int size;                // outstanding holds
+
+	public Reservations(long tickMillis, int wheelSize) {
+		if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+		if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a positive power of two");
+		this.tickMillis = tickMillis;
+		this.buckets = new int[wheelSize];
+		Arrays.fill(buckets, NIL);
+		this.wheelMask = wheelSize - 1;
+		int initial = 1024;
+		products = new Product[initial];
+		quantities = new int[initial];
+		deadlines = new long[initial];
+		next = new int[initial];
+		prev = new int[initial];
+		productNext = new int[initial];
+		productPrev = new int[initial];
+		generations = new int[initial];
+	}
+
+	// Track a hold expiring at deadlineMillis; returns its id
+	public long add(Product product, int quantity, long nowMillis, long deadlineMillis) {
+		if (currentTick == Long.MIN_VALUE) currentTick = Math.floorDiv(nowMillis, tickMillis);
+		int slot = allocate();
+		products[slot] = product;
+		quantities[slot] = quantity;
+		// Round the deadline up and never into a bucket the wheel has already passed
+		long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+		deadlines[slot] = tick;
+		int b = (int) tick & wheelMask;
+		prev[slot] = NIL;
+		next[slot] = buckets[b];
+		if (buckets[b] != NIL) prev[buckets[b]] = slot;
+		buckets[b] = slot;
+		productPrev[slot] = NIL;
+		productNext[slot] = product.holdHead;
+		if (product.holdHead != NIL) productPrev[product.holdHead] = slot;
+		product.holdHead = slot;
+		size++;
+		return ((long) generations[slot] << 32) | slot;
+	}
+
+	// Slot of an outstanding hold, or -1 if unknown/expired. Valid until the hold is removed or expires.
+	public int find(long holdId) {
+		int slot = (int) holdId;
+		if (slot < 0 || slot >= used) return NIL;
+		if (products[slot] == null || generations[slot] != (int) (holdId >>> 32)) return NIL;
+		return slot;
+	}
+
+	public Product productAt(int slot) { return products[slot]; }
+	public int quantityAt(int slot) { return quantities[slot]; }
+
+	// Forget a hold found by find (confirmed or released)
+	public void removeAt(int slot) {
+		unlink(slot, (int) deadlines[slot] & wheelMask);
+		free(slot);
+	}
+
+	// Forget every hold on product (removed or replaced). Returns the total quantity they held.
+	public int removeAll(Product product) {
+		int total = 0;
+		while (product.holdHead != NIL) {
+			int slot = product.holdHead;
+			total += quantities[slot];
+			removeAt(slot);
+		}
+		return total;
+	}
+
+	// Advance the wheel to nowMillis and hand every hold due by then to handler. Returns the number expired.
+	// Callers must use one monotonic clock: a time behind the wheel is ignored, and one far ahead of
+	// later add() calls would stall expiry until that clock catches up.
+	public int expire(long nowMillis, ExpiryHandler handler) {
+		long target = Math.floorDiv(nowMillis, tickMillis);
+		if (currentTick == Long.MIN_VALUE) { currentTick = target; return 0; }
+		if (target <= currentTick) return 0;
+		// After a long pause one revolution visits every bucket; deadlines are compared to target
+		long ticks = Math.min(target - currentTick, buckets.length);
+		int expired = 0;
+		for (long t = currentTick + 1; t <= currentTick + ticks; t++) {
+			int b = (int) t & wheelMask;
+			int slot = buckets[b];
+			while (slot != NIL) {
+				int following = next[slot];
+				if (deadlines[slot] <= target) {
+					Product p = products[slot];
+					int qty = quantities[slot];
+					unlink(slot, b);
+					free(slot);
+					handler.onExpired(p, qty);
+					expired++;
+				}
+				slot = following;
+			}
+		}
+		currentTick = target;
+		return expired;
+	}
+
+	// Number of outstanding holds
+	public int size() {
+		return size;
+	}
+
+	private int allocate() {
+		if (freeHead != NIL) {
+			int slot = freeHead;
+			freeHead = next[slot];
+			return slot;
+		}
+		if (used == products.length) grow();
+		return used++;
+	}
+
+	private void free(int slot) {
+		products[slot] = null;
+		generations[slot]++;
+		next[slot] = freeHead;
+		freeHead = slot;
+		size--;
+	}
+
+	// Take a slot off both its wheel bucket and its product's list
+	private void unlink(int slot, int bucket) {
+		if (prev[slot] != NIL) next[prev[slot]] = next[slot];
+		else buckets[bucket] = next[slot];
+		if (next[slot] != NIL) prev[next[slot]] = prev[slot];
+		Product p = products[slot];
+		if (productPrev[slot] != NIL) productNext[productPrev[slot]] = productNext[slot];
+		else p.holdHead = productNext[slot];
+		if (productNext[slot] != NIL) productPrev[productNext[slot]] = productPrev[slot];
+	}
+
+	private void grow() {
+		int cap = products.length * 2;
+		products = Arrays.copyOf(products, cap);
+		quantities = Arrays.copyOf(quantities, cap);
+		deadlines = Arrays.copyOf(deadlines, cap);
+		next = Arrays.copyOf(next, cap);
+		prev = Arrays.copyOf(prev, cap);
+		productNext = Arrays.copyOf(productNext, cap);
+		productPrev = Arrays.copyOf(productPrev, cap);
+		generations = Arrays.copyOf(generations, cap);
+	}
+}
@@ -0,0 +1,49 @@
+public class ReservationsBenchmark {
+	// Measures per-hold cost of adding, confirming and expiring millions of outstanding holds.
+	// Usage: java ReservationsBenchmark [holds] [ttlSpreadSeconds]
+
+	public static void main(String[] args) {
+		int holds = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+		int spreadSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+		long spread = spreadSeconds * 1000L;
+		for (int round = 1; round <= 3; round++) run(round, holds, spread);
+	}
+
+	private static void run(int round, int holds, long spreadMillis) {
+		// Same wheel geometry as Products: 100ms ticks, 65536 buckets
+		Reservations r = new Reservations(100, 1 << 16);
+		Product[] products = new Product[64];
+		for (int i = 0; i < products.length; i++) products[i] = new Product("P" + i, Integer.MAX_VALUE, 0, null);
+		long[] ids = new long[holds];
+		long now = 0;
+
+		long t0 = System.nanoTime();
+		for (int i = 0; i < holds; i++) {
+			// Deterministic spread of ttls over the whole range
+			long ttl = 1 + (i * 2_654_435_761L & 0x7fffffffL) % spreadMillis;
+			ids[i] = r.add(products[i & (products.length - 1)], 1, now, now + ttl);
+		}
+		long t1 = System.nanoTime();
+
+		// Confirm/release a tenth of them before they expire
+		int removed = 0;
+		for (int i = 0; i < holds; i += 10) { r.removeAt(r.find(ids[i])); removed++; }
+		long t2 = System.nanoTime();
+
+		// Advance one tick at a time, as the ticker would, until everything has expired
+		long[] expired = {0};
+		Reservations.ExpiryHandler count = (p, qty) -> expired[0]++;
+		long ticks = 0;
+		while (r.size() > 0) {
+			now += 100;
+			r.expire(now, count);
+			ticks++;
+		}
+		long t3 = System.nanoTime();
+
+		System.out.printf("round %d: holds=%,d add=%.1fns/hold remove=%.1fns/hold expire=%.1fns/hold (%,d ticks, %.1fus/tick)%n",
+			round, holds, (t1 - t0) / (double) holds, (t2 - t1) / (double) removed,
+			(t3 - t2) / (double) expired[0], ticks, (t3 - t2) / 1000.0 / ticks);
+		if (expired[0] + removed != holds) throw new AssertionError("expired " + expired[0] + " + removed " + removed + " != " + holds);
+	}
+}
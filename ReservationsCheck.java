@@ -0,0 +1,142 @@
+import java.util.*;
+
+public class ReservationsCheck {
+	// Runnable self-check of the reservation timing wheel and the Products hold API; exits non-zero on the first failure.
+	// Usage: java ReservationsCheck
+
+	private static final Reservations.ExpiryHandler IGNORE = (p, qty) -> { };
+
+	public static void main(String[] args) {
+		holdsSpanningRevolutions();
+		longPauseClampsToOneRevolution();
+		staleIdsRejectedAfterReuse();
+		growsPastInitialCapacity();
+		purgeRemovesProductHolds();
+		sweepPublishesEvents();
+		purgedHoldsReportedConsistently();
+		System.out.println("All Reservations checks passed.");
+	}
+
+	// A deadline several revolutions out survives every earlier visit of its bucket
+	private static void holdsSpanningRevolutions() {
+		Reservations r = new Reservations(10, 8); // 80ms per revolution
+		Product p = new Product("A", 100, 0, null);
+		long id = r.add(p, 1, 0, 250);
+		for (long now = 10; now < 250; now += 10) {
+			check(r.expire(now, IGNORE) == 0, "hold expired early at " + now + "ms");
+			check(r.find(id) >= 0, "hold still outstanding at " + now + "ms");
+		}
+		check(r.expire(260, IGNORE) == 1 && r.find(id) < 0, "hold expires once its deadline tick passes");
+		check(r.size() == 0, "size back to 0");
+		System.out.println("ok  holds spanning several revolutions");
+	}
+
+	// A jump of many revolutions visits each bucket once and expires exactly the holds that are due
+	private static void longPauseClampsToOneRevolution() {
+		Reservations r = new Reservations(10, 8);
+		Product p = new Product("A", 100, 0, null);
+		for (int i = 1; i <= 50; i++) r.add(p, 1, 0, i * 10L);
+		long late = r.add(p, 1, 0, 10_000);
+		int[] qty = {0};
+		int expired = r.expire(5_000, (pp, q) -> qty[0] += q);
+		check(expired == 50 && qty[0] == 50, "long pause expires all 50 due holds, expired " + expired);
+		check(r.find(late) >= 0 && r.size() == 1, "hold due after the pause is kept");
+		check(r.expire(10_000, IGNORE) == 1 && r.size() == 0, "remaining hold expires on time");
+		System.out.println("ok  long pause clamps to one revolution");
+	}
+
+	// A reused slot gets a new generation, so the old id no longer resolves
+	private static void staleIdsRejectedAfterReuse() {
+		Reservations r = new Reservations(10, 8);
+		Product p = new Product("A", 100, 0, null);
+		long first = r.add(p, 3, 0, 100);
+		r.removeAt(r.find(first));
+		long second = r.add(p, 4, 0, 100);
+		check((int) first == (int) second, "freed slot is reused");
+		check(first != second, "reused slot gets a new id");
+		check(r.find(first) < 0, "stale id rejected");
+		check(r.quantityAt(r.find(second)) == 4, "new id resolves to the new hold");
+		check(r.find(-1L) < 0 && r.find(1L << 40) < 0, "unknown ids rejected");
+		System.out.println("ok  stale ids rejected after slot reuse");
+	}
+
+	// Growth past the initial 1024 slots keeps every hold and both lists intact
+	private static void growsPastInitialCapacity() {
+		Reservations r = new Reservations(10, 64);
+		Product a = new Product("A", 100_000, 0, null);
+		Product b = new Product("B", 100_000, 0, null);
+		int n = 5_000;
+		long[] ids = new long[n];
+		for (int i = 0; i < n; i++) ids[i] = r.add(i % 2 == 0 ? a : b, i + 1, 0, 10 + i % 700);
+		for (int i = 0; i < n; i++) {
+			int slot = r.find(ids[i]);
+			check(slot >= 0 && r.quantityAt(slot) == i + 1 && r.productAt(slot) == (i % 2 == 0 ? a : b), "hold " + i + " intact after growth");
+		}
+		for (int i = 0; i < n; i += 3) r.removeAt(r.find(ids[i]));
+		int removed = (n + 2) / 3;
+		int expired = r.expire(10_000, IGNORE);
+		check(expired == n - removed && r.size() == 0, "all remaining holds expire, expired " + expired);
+		check(a.holdHead == -1 && b.holdHead == -1, "product lists empty");
+		System.out.println("ok  growth past 1024 slots");
+	}
+
+	// Removing or replacing a product drops its holds immediately
+	private static void purgeRemovesProductHolds() {
+		long[] now = {0};
+		Products ps = new Products(new ProductEventRing(64, ProductEventRing.OverflowPolicy.DROP_OLDEST), () -> now[0]);
+		ps.registerProduct("A", 10, 0, null);
+		ps.registerProduct("B", 10, 0, null);
+		long a = ps.reserve("A", 1, 60_000).getAsLong();
+		ps.reserve("B", 2, 60_000);
+		ps.reserve("B", 3, 60_000);
+		Product b = ps.findProduct("B").get();
+		check(ps.removeProduct("B"), "B removed");
+		check(ps.outstandingReservations() == 1 && b.getHeld() == 0, "B's holds purged, outstanding " + ps.outstandingReservations());
+		ps.registerProduct("A", 5, 0, null);
+		check(ps.outstandingReservations() == 0 && ps.releaseReservation(a) == false, "replaced A's hold purged");
+		System.out.println("ok  holds purged with their product");
+	}
+
+	// An expiry sweep publishes EXPIRED and, when availability recovers, THRESHOLD_CROSSED
+	private static void sweepPublishesEvents() {
+		long[] now = {1_000};
+		Products ps = new Products(new ProductEventRing(64, ProductEventRing.OverflowPolicy.DROP_OLDEST), () -> now[0]);
+		ps.registerProduct("A", 10, 5, null);
+		ProductEventRing.Subscriber sub = ps.getEvents().subscribe();
+		ps.reserve("A", 6, 500);
+		now[0] += 400;
+		check(ps.expireReservations() == 0, "hold not due yet");
+		now[0] += 200;
+		check(ps.expireReservations() == 1, "hold expires after its ttl");
+		List<ProductEvent.Type> types = new ArrayList<>();
+		List<Integer> held = new ArrayList<>();
+		sub.poll(e -> { types.add(e.getType()); held.add(e.getHeld()); }, 100);
+		check(types.equals(List.of(ProductEvent.Type.RESERVED, ProductEvent.Type.THRESHOLD_CROSSED,
+			ProductEvent.Type.EXPIRED, ProductEvent.Type.THRESHOLD_CROSSED)), "events " + types);
+		check(held.equals(List.of(6, 6, 0, 0)), "held in events " + held);
+		check(!ps.findProduct("A").get().isBelowThreshold(), "A back above threshold");
+		System.out.println("ok  sweep publishes EXPIRED and THRESHOLD_CROSSED");
+	}
+
+	// Confirm and release agree on unknown, expired and purged holds
+	private static void purgedHoldsReportedConsistently() {
+		long[] now = {0};
+		Products ps = new Products(new ProductEventRing(64, ProductEventRing.OverflowPolicy.DROP_OLDEST), () -> now[0]);
+		ps.registerProduct("A", 10, 0, null);
+		long h1 = ps.reserve("A", 1, 60_000).getAsLong();
+		long h2 = ps.reserve("A", 1, 60_000).getAsLong();
+		long h3 = ps.reserve("A", 1, 100).getAsLong();
+		now[0] += 200;
+		check(!ps.confirmReservation(h3) && !ps.releaseReservation(h3), "expired hold rejected by both");
+		ps.removeProduct("A");
+		check(!ps.confirmReservation(h1) && !ps.releaseReservation(h2), "purged holds rejected by both");
+		System.out.println("ok  confirm and release agree");
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			System.out.println("FAIL " + message);
+			throw new AssertionError(message);
+		}
+	}
+}
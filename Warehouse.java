@@ -1,11 +1,17 @@
 import java.time.LocalDate;
 import java.util.*;
 import java.math.BigDecimal;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class Warehouse {
 	// Underlying inventory manager
 	private final Products products = new Products();
 
+	// Single periodic task that advances the reservation wheel (not one task per hold)
+	private ScheduledExecutorService expiryTicker;
+
 	// Register or replace a product
 	public Product addProduct(String id, int initialStock, int threshold, String name) {
 		return products.registerProduct(id, initialStock, threshold, name);
@@ -26,6 +32,50 @@ public class Warehouse {
 		return products.deliver(id, qty);
 	}
 
+	// Hold units for a cart/order; returns the hold id if enough stock is available
+	public OptionalLong reserveProduct(String id, int qty, long ttlMillis) {
+		return products.reserve(id, qty, ttlMillis);
+	}
+
+	// Deliver the units of a hold
+	public boolean confirmReservation(long holdId) {
+		return products.confirmReservation(holdId);
+	}
+
+	// Return the units of a hold to available stock
+	public boolean releaseReservation(long holdId) {
+		return products.releaseReservation(holdId);
+	}
+
+	// Release holds whose ttl has passed; returns the number expired.
+	// Expiry is otherwise lazy: without startReservationExpiry, EXPIRED events only appear when
+	// something touches the inventory, so call this periodically or start the ticker.
+	public int expireReservations() {
+		return products.expireReservations();
+	}
+
+	// Start advancing the reservation wheel every periodMillis on a daemon thread
+	public synchronized void startReservationExpiry(long periodMillis) {
+		if (periodMillis <= 0) throw new IllegalArgumentException("periodMillis must be positive");
+		if (expiryTicker != null) return;
+		expiryTicker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "reservation-expiry");
+			t.setDaemon(true);
+			return t;
+		});
+		expiryTicker.scheduleAtFixedRate(() -> {
+			// A failed run must not cancel the schedule
+			try { expireReservations(); }
+			catch (RuntimeException e) { System.err.println("Reservation expiry failed: " + e.getMessage()); }
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stopReservationExpiry() {
+		if (expiryTicker == null) return;
+		expiryTicker.shutdownNow();
+		expiryTicker = null;
+	}
+
 	// Pay outstanding amount for a product; returns remaining due if product exists
 	public Optional<BigDecimal> paySupplier(String id, BigDecimal amount) {
 		return products.payForProduct(id, amount);
@@ -58,7 +108,8 @@ public class Warehouse {
 		StringBuilder sb = new StringBuilder();
 		sb.append("Low stock products:\n");
 		for (Product p : low) {
-			sb.append(String.format("- %s: stock=%d, threshold=%d%n", p.getId(), p.getStock(), p.getThreshold()));
+			sb.append(String.format("- %s: stock=%d, held=%d, available=%d, threshold=%d%n",
+				p.getId(), p.getStock(), p.getHeld(), p.getAvailable(), p.getThreshold()));
 		}
 		return sb.toString();
 	}
@@ -66,4 +117,9 @@ public class Warehouse {
 	public Products getProducts() {
 		return products;
 	}
+
+	// Change events published for every product mutation
+	public ProductEventRing getEvents() {
+		return products.getEvents();
+	}
 }
\ No newline at end of file